@@ -0,0 +1,142 @@
+package app.core;
+
+import java.nio.file.Path;
+import java.time.Duration;
+import java.util.*;
+
+/**
+ * Esito immutabile di un'analisi: include indicizzati, grafo delle dipendenze,
+ * usi diretti e transitivi con catene d'uso minime, messaggi diagnostici e tempi delle singole fasi.
+ */
+public final class AnalysisResult {
+
+    public record Timings(Duration indexing, Duration directScan, Duration graph,
+                          Duration reachability, Duration total) {}
+
+    /**
+     * Modalità regione import: file letti da disco in questa analisi, con i byte letti e quelli
+     * non letti rispetto a una scansione completa, più i file serviti dalla cache senza letture.
+     */
+    public record ScanStats(int regionFiles, int cachedFiles, long bytesRead, long bytesSkipped) {}
+
+    private final Path appRoot;
+    private final Path includesRoot;
+    private final Map<String, Path> includes;
+    private final Map<Path, Set<Path>> dependencies;
+    private final Map<String, Set<Path>> directUsages;
+    private final Set<Path> transitivelyUsed;
+    private final Map<Path, Path> parents;
+    private final List<String> messages;
+    private final Timings timings;
+    private final ScanStats scanStats;
+
+    AnalysisResult(Path appRoot, Path includesRoot,
+                   Map<String, Path> includes,
+                   Map<Path, Set<Path>> dependencies,
+                   Map<String, Set<Path>> directUsages,
+                   Set<Path> transitivelyUsed,
+                   Map<Path, Path> parents,
+                   List<String> messages,
+                   Timings timings,
+                   ScanStats scanStats) {
+        this.appRoot = appRoot;
+        this.includesRoot = includesRoot;
+        this.includes = Collections.unmodifiableMap(new LinkedHashMap<>(includes));
+        this.dependencies = freeze(dependencies);
+        this.directUsages = freeze(directUsages);
+        this.transitivelyUsed = Collections.unmodifiableSet(new LinkedHashSet<>(transitivelyUsed));
+        this.parents = Map.copyOf(parents);
+        this.messages = List.copyOf(messages);
+        this.timings = timings;
+        this.scanStats = scanStats;
+    }
+
+    public Path appRoot() { return appRoot; }
+
+    public Path includesRoot() { return includesRoot; }
+
+    /** Nome include (senza estensione) -> path assoluto. */
+    public Map<String, Path> includes() { return includes; }
+
+    /** Grafo include -> include importati. */
+    public Map<Path, Set<Path>> dependencies() { return dependencies; }
+
+    /** Nome include -> file dell'app che lo importano direttamente. */
+    public Map<String, Set<Path>> directUsages() { return directUsages; }
+
+    /** Include raggiungibili dai file dell'app. */
+    public Set<Path> transitivelyUsed() { return transitivelyUsed; }
+
+    /** Messaggi prodotti durante l'analisi, nell'ordine in cui sono stati generati. */
+    public List<String> messages() { return messages; }
+
+    public Timings timings() { return timings; }
+
+    public ScanStats scanStats() { return scanStats; }
+
+    public boolean isUsed(String includeName) {
+        Path path = includes.get(includeName);
+        return path != null && transitivelyUsed.contains(path);
+    }
+
+    public Set<Path> directUsers(String includeName) {
+        return directUsages.getOrDefault(includeName, Collections.emptySet());
+    }
+
+    /**
+     * Catena d'uso più corta che tiene vivo l'include: primo elemento il file dell'app,
+     * ultimo l'include stesso. Vuota se l'include non è usato.
+     * Un path relativo è risolto rispetto alla cartella app, come in {@link #rel(Path)}.
+     */
+    public List<Path> whyUsed(Path includePath) {
+        Path key = appRoot.resolve(includePath).normalize();
+        if (!transitivelyUsed.contains(key)) {
+            return List.of();
+        }
+        var chain = new ArrayDeque<Path>();
+        for (Path node = key; node != null; node = parents.get(node)) {
+            chain.addFirst(node);
+        }
+        return List.copyOf(chain);
+    }
+
+    public List<Path> whyUsed(String includeName) {
+        Path path = includes.get(includeName);
+        return path == null ? List.of() : whyUsed(path);
+    }
+
+    /** Catena d'uso in forma leggibile, con path relativi ad app. */
+    public String describeChain(List<Path> chain) {
+        var sb = new StringBuilder();
+        for (Path node : chain) {
+            if (sb.length() > 0) sb.append(" -> ");
+            sb.append(rel(node));
+        }
+        return sb.toString();
+    }
+
+    /** Include non raggiungibili da nessun file dell'app, in ordine di indicizzazione. */
+    public Map<String, Path> unused() {
+        Map<String, Path> unused = new LinkedHashMap<>();
+        includes.forEach((name, path) -> {
+            if (!transitivelyUsed.contains(path)) {
+                unused.put(name, path);
+            }
+        });
+        return Collections.unmodifiableMap(unused);
+    }
+
+    public String rel(Path path) {
+        try {
+            return appRoot.relativize(path.toAbsolutePath().normalize()).toString();
+        } catch (IllegalArgumentException e) {
+            return path.toString();
+        }
+    }
+
+    private static <K, V> Map<K, Set<V>> freeze(Map<K, Set<V>> source) {
+        Map<K, Set<V>> copy = new LinkedHashMap<>();
+        source.forEach((k, v) -> copy.put(k, Collections.unmodifiableSet(new LinkedHashSet<>(v))));
+        return Collections.unmodifiableMap(copy);
+    }
+}
@@ -0,0 +1,242 @@
+package app.core;
+
+import java.io.IOException;
+import java.nio.ByteBuffer;
+import java.nio.CharBuffer;
+import java.nio.channels.FileChannel;
+import java.nio.charset.CharsetDecoder;
+import java.nio.charset.CodingErrorAction;
+import java.nio.charset.StandardCharsets;
+import java.nio.file.*;
+
+/**
+ * Legge un sorgente a blocchi e si ferma appena termina la regione iniziale
+ * composta da commenti, direttive ({@code 'use client'}) e {@code import} statici.
+ * Il primo statement diverso (codice, {@code export}, {@code import(...)}) chiude la regione.
+ */
+final class ImportRegionReader {
+    static final int CHUNK = 4096;
+
+    /** Testo della regione e byte effettivamente letti dal disco. */
+    record Region(String text, long bytesRead, long fileSize) {
+        long bytesSkipped() {
+            return fileSize - bytesRead;
+        }
+    }
+
+    private static final int NEED_MORE = -1;
+
+    private ImportRegionReader() {}
+
+    static Region read(Path file) throws IOException {
+        try (FileChannel channel = FileChannel.open(file, StandardOpenOption.READ)) {
+            long size = channel.size();
+            CharsetDecoder decoder = StandardCharsets.UTF_8.newDecoder()
+                    .onMalformedInput(CodingErrorAction.REPLACE)
+                    .onUnmappableCharacter(CodingErrorAction.REPLACE);
+            ByteBuffer bytes = ByteBuffer.allocate(CHUNK);
+            CharBuffer chars = CharBuffer.allocate(CHUNK);
+            StringBuilder text = new StringBuilder();
+            var scanner = new Scanner(text);
+            long read = 0;
+
+            while (true) {
+                int n = channel.read(bytes);
+                boolean eof = n < 0;
+                if (n > 0) read += n;
+
+                bytes.flip();
+                decoder.decode(bytes, chars, eof);
+                if (eof) decoder.flush(chars);
+                bytes.compact();
+                chars.flip();
+                text.append(chars);
+                chars.clear();
+
+                int end = scanner.regionEnd(eof);
+                if (end != NEED_MORE) {
+                    return new Region(text.substring(0, end), read, size);
+                }
+            }
+        }
+    }
+
+    /** Scanner incrementale: riprende dall'ultimo statement completo a ogni nuovo blocco. */
+    private static final class Scanner {
+        private final CharSequence s;
+        private int committed;
+        // Terminatore ancora aperto (commento o riga): da dove è partito e fin dove è già stato cercato
+        private int pendingStart = -1, pendingSearched;
+
+        Scanner(CharSequence s) {
+            this.s = s;
+        }
+
+        int regionEnd(boolean eof) {
+            int i = committed;
+            if (i == 0) {
+                // BOM UTF-8 e shebang precedono la regione senza chiuderla
+                if (startsWith(0, "\uFEFF")) i = 1;
+                if (startsWith(i, "#!")) {
+                    i = lineEnd(i);
+                    if (i < 0) return eof ? s.length() : NEED_MORE;
+                }
+            }
+            while (true) {
+                i = skipTrivia(i);
+                if (i < 0) return eof ? s.length() : NEED_MORE;
+                if (i >= s.length()) {
+                    committed = i;
+                    return eof ? s.length() : NEED_MORE;
+                }
+
+                // Token tagliato dal blocco: serve il resto per decidere
+                if (!eof && tokenRunsToEnd(i)) return NEED_MORE;
+
+                int next;
+                char c = s.charAt(i);
+                if (c == '\'' || c == '"') {
+                    next = directiveEnd(i);
+                } else if (isKeyword(i, "import")) {
+                    next = importEnd(i);
+                } else {
+                    return i;
+                }
+
+                if (next == NEED_MORE) return eof ? s.length() : NEED_MORE;
+                if (next == i) return i; // statement non ammesso nella regione
+                committed = i = next;
+            }
+        }
+
+        // Direttiva: stringa seguita da ';' o fine riga
+        private int directiveEnd(int start) {
+            int i = stringEnd(start);
+            if (i < 0) return NEED_MORE;
+            return statementTail(i);
+        }
+
+        private int importEnd(int start) {
+            int i = start + "import".length();
+            int j = skipTrivia(i);
+            if (j < 0 || j >= s.length()) return NEED_MORE;
+            char c = s.charAt(j);
+            // import(...) e import.meta sono espressioni, non dichiarazioni statiche
+            if (c == '(' || c == '.') return start;
+
+            int depth = 0;
+            while (true) {
+                i = skipTrivia(i);
+                if (i < 0 || i >= s.length()) return NEED_MORE;
+                c = s.charAt(i);
+                if (c == '{') {
+                    depth++;
+                    i++;
+                } else if (c == '}') {
+                    depth--;
+                    i++;
+                } else if (c == ';' && depth == 0) {
+                    return i + 1;
+                } else if ((c == '\'' || c == '"' || c == '`') && depth == 0) {
+                    int end = stringEnd(i);
+                    if (end < 0) return NEED_MORE;
+                    return statementTail(end);
+                } else if (c == '\'' || c == '"' || c == '`') {
+                    int end = stringEnd(i);
+                    if (end < 0) return NEED_MORE;
+                    i = end;
+                } else {
+                    i++;
+                }
+            }
+        }
+
+        // Consuma spazi e ';' finale sulla stessa riga
+        private int statementTail(int i) {
+            while (i < s.length() && (s.charAt(i) == ' ' || s.charAt(i) == '\t')) i++;
+            if (i >= s.length()) return NEED_MORE;
+            if (s.charAt(i) == ';') i++;
+            return i;
+        }
+
+        /** Salta spazi e commenti; -1 se un commento non è ancora chiuso. */
+        private int skipTrivia(int i) {
+            while (i < s.length()) {
+                char c = s.charAt(i);
+                if (Character.isWhitespace(c)) {
+                    i++;
+                } else if (c == '/' && i + 1 >= s.length()) {
+                    return -1;
+                } else if (startsWith(i, "//")) {
+                    i = lineEnd(i);
+                    if (i < 0) return -1;
+                } else if (startsWith(i, "/*")) {
+                    int close = find("*/", i + 2);
+                    if (close < 0) return -1;
+                    i = close + 2;
+                } else {
+                    return i;
+                }
+            }
+            return i;
+        }
+
+        private boolean tokenRunsToEnd(int i) {
+            while (i < s.length() && Character.isJavaIdentifierPart(s.charAt(i))) i++;
+            return i >= s.length();
+        }
+
+        private int stringEnd(int start) {
+            char quote = s.charAt(start);
+            for (int i = start + 1; i < s.length(); i++) {
+                char c = s.charAt(i);
+                if (c == '\\') {
+                    i++;
+                } else if (c == quote) {
+                    return i + 1;
+                }
+            }
+            return -1;
+        }
+
+        private int lineEnd(int i) {
+            int nl = find("\n", i);
+            return nl < 0 ? -1 : nl + 1;
+        }
+
+        /**
+         * Come {@link #indexOf}, ma se la stessa ricerca era rimasta aperta al blocco precedente
+         * riparte da dove si era fermata: un commento lungo viene scandito una sola volta.
+         */
+        private int find(String needle, int start) {
+            int from = start == pendingStart ? pendingSearched : start;
+            int at = indexOf(needle, from);
+            if (at < 0) {
+                pendingStart = start;
+                pendingSearched = Math.max(start, s.length() - needle.length() + 1);
+            }
+            return at;
+        }
+
+        private boolean isKeyword(int i, String word) {
+            if (!startsWith(i, word)) return false;
+            int after = i + word.length();
+            return after >= s.length() || !Character.isJavaIdentifierPart(s.charAt(after));
+        }
+
+        private boolean startsWith(int i, String prefix) {
+            if (i + prefix.length() > s.length()) return false;
+            for (int k = 0; k < prefix.length(); k++) {
+                if (s.charAt(i + k) != prefix.charAt(k)) return false;
+            }
+            return true;
+        }
+
+        private int indexOf(String needle, int from) {
+            for (int i = from; i + needle.length() <= s.length(); i++) {
+                if (startsWith(i, needle)) return i;
+            }
+            return -1;
+        }
+    }
+}
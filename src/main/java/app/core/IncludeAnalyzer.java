@@ -0,0 +1,388 @@
+package app.core;
+
+import java.io.IOException;
+import java.nio.charset.StandardCharsets;
+import java.nio.file.*;
+import java.time.Duration;
+import java.util.*;
+import java.util.function.Consumer;
+import java.util.regex.Pattern;
+import java.util.stream.Collectors;
+
+/**
+ * Analisi pura dell'uso degli include: non scrive su disco e non modifica report;
+ * i messaggi finiscono nel risultato e, se richiesto, in un callback di avanzamento.
+ * Lo stato di ogni chiamata è locale alla chiamata, quindi la stessa istanza può
+ * servire più analisi concorrenti condividendo la {@link SourceCache}.
+ */
+public final class IncludeAnalyzer {
+
+    private static final List<String> EXTS = List.of(".jsx", ".tsx", ".js");
+
+    // Pattern più robusto per catturare import/require
+    private static final Pattern IMPORT_PATTERN = Pattern.compile(
+            "(?m)^\\s*(?:" +
+                    "import\\s+(?:[{][^}]*[}]|[^{][^;]*?)\\s+from\\s+['\"]([^'\"]+)['\"]|" +
+                    "import\\s*\\(\\s*['\"]([^'\"]+)['\"]\\s*\\)|" +
+                    "require\\s*\\(\\s*['\"]([^'\"]+)['\"]\\s*\\)" +
+                    ");?\\s*$"
+    );
+
+    private static final String FULL_SCAN = "full";
+    private static final String REGION_SCAN = "region";
+
+    private final SourceCache cache;
+
+    public IncludeAnalyzer() {
+        this(new SourceCache());
+    }
+
+    public IncludeAnalyzer(SourceCache cache) {
+        this.cache = cache;
+    }
+
+    public SourceCache cache() {
+        return cache;
+    }
+
+    public AnalysisResult analyze(Path appRoot, Path includesRoot, Path unusedTarget) throws IOException {
+        return analyze(appRoot, includesRoot, unusedTarget, ScanPolicy.fullScan());
+    }
+
+    public AnalysisResult analyze(Path appRoot, Path includesRoot, Path unusedTarget,
+                                  ScanPolicy policy) throws IOException {
+        return analyze(appRoot, includesRoot, unusedTarget, policy, msg -> {});
+    }
+
+    /**
+     * Come {@link #analyze(Path, Path, Path, ScanPolicy)}, ma ogni messaggio viene anche
+     * passato a {@code progress} appena prodotto, dal thread che esegue l'analisi.
+     */
+    public AnalysisResult analyze(Path appRoot, Path includesRoot, Path unusedTarget,
+                                  ScanPolicy policy, Consumer<String> progress) throws IOException {
+        return new Run(appRoot, includesRoot, unusedTarget, policy, progress).analyze();
+    }
+
+    static Set<String> extractImports(String content) {
+        Set<String> imports = new LinkedHashSet<>();
+        // Il BOM UTF-8 non è whitespace per la regex: senza toglierlo il primo import va perso
+        if (content.startsWith("\uFEFF")) {
+            content = content.substring(1);
+        }
+        var matcher = IMPORT_PATTERN.matcher(content);
+
+        while (matcher.find()) {
+            // Controlla tutti i gruppi di cattura per diversi tipi di import
+            for (int i = 1; i <= matcher.groupCount(); i++) {
+                String importPath = matcher.group(i);
+                if (importPath != null && !importPath.trim().isEmpty()) {
+                    imports.add(importPath.trim());
+                    break; // Prendi solo il primo match non-null
+                }
+            }
+        }
+
+        return imports;
+    }
+
+    private final class Run {
+        private final Path appRoot, includesRoot, unusedTarget;
+        private final ScanPolicy policy;
+        private final Consumer<String> progress;
+        private final List<String> messages = new ArrayList<>();
+        private int regionFiles, regionCached;
+        private long regionBytesRead, regionBytesSkipped;
+
+        Run(Path appRoot, Path includesRoot, Path unusedTarget, ScanPolicy policy, Consumer<String> progress) {
+            this.appRoot = appRoot.toAbsolutePath().normalize();
+            this.includesRoot = includesRoot.toAbsolutePath().normalize();
+            this.unusedTarget = unusedTarget.toAbsolutePath().normalize();
+            this.policy = policy.resolveAgainst(this.appRoot);
+            this.progress = progress;
+        }
+
+        AnalysisResult analyze() throws IOException {
+            long start = System.nanoTime();
+
+            // 1) Indicizza tutti gli include
+            Map<String, Path> includes = indexIncludes();
+            note("Include indicizzati: " + includes.size());
+
+            Map<Path, String> pathToName = includes.entrySet().stream()
+                    .collect(Collectors.toMap(Map.Entry::getValue, Map.Entry::getKey, (a, b) -> a, LinkedHashMap::new));
+
+            Set<Path> includePaths = new LinkedHashSet<>(includes.values());
+            long indexed = System.nanoTime();
+
+            // 2) Analizza usi diretti dai file dell'app (esclusi gli include)
+            Map<String, Set<Path>> directUsages = analyzeDirectUsages(includes, pathToName, includePaths);
+            long scanned = System.nanoTime();
+
+            // 3) Costruisci grafo delle dipendenze include-to-include
+            Map<Path, Set<Path>> includeDependencies = buildIncludeDependencyGraph(includePaths);
+            long graphed = System.nanoTime();
+
+            // 4) Determina include utilizzati attraverso analisi transitiva
+            Map<Path, Path> parents = new HashMap<>();
+            Set<Path> transitivelyUsed = computeTransitiveUsage(includes, directUsages, includeDependencies, parents);
+            long reached = System.nanoTime();
+
+            var timings = new AnalysisResult.Timings(
+                    Duration.ofNanos(indexed - start),
+                    Duration.ofNanos(scanned - indexed),
+                    Duration.ofNanos(graphed - scanned),
+                    Duration.ofNanos(reached - graphed),
+                    Duration.ofNanos(reached - start));
+
+            var scanStats = new AnalysisResult.ScanStats(regionFiles, regionCached, regionBytesRead, regionBytesSkipped);
+
+            return new AnalysisResult(appRoot, includesRoot, includes, includeDependencies,
+                    directUsages, transitivelyUsed, parents, messages, timings, scanStats);
+        }
+
+        private Map<String, Set<Path>> analyzeDirectUsages(Map<String, Path> includes,
+                                                           Map<Path, String> pathToName,
+                                                           Set<Path> includePaths) throws IOException {
+            Map<String, Set<Path>> usedBy = includes.keySet().stream()
+                    .collect(Collectors.toMap(k -> k, k -> new LinkedHashSet<>(), (a, b) -> a, LinkedHashMap::new));
+
+            List<Path> appFiles = listSources(appRoot, Set.of(unusedTarget));
+
+            for (Path file : appFiles) {
+                // Salta file che sono dentro la cartella includes
+                if (isUnder(file, includesRoot)) {
+                    continue;
+                }
+
+                analyzeFileImports(file, includePaths, pathToName, usedBy);
+            }
+
+            return usedBy;
+        }
+
+        private void analyzeFileImports(Path file, Set<Path> includePaths,
+                                        Map<Path, String> pathToName,
+                                        Map<String, Set<Path>> usedBy) {
+            try {
+                Set<String> imports = importsOf(file);
+
+                for (String importSpec : imports) {
+                    Path resolvedPath = resolveImport(file.getParent(), importSpec);
+                    if (resolvedPath == null || !includePaths.contains(resolvedPath)) {
+                        continue;
+                    }
+
+                    // Evita auto-import
+                    if (isSameFile(file, resolvedPath)) {
+                        continue;
+                    }
+
+                    String includeName = pathToName.get(resolvedPath);
+                    if (includeName != null) {
+                        usedBy.get(includeName).add(file);
+                    }
+                }
+
+                note("Analizzato: " + rel(file));
+
+            } catch (IOException e) {
+                note("Errore lettura file " + rel(file) + ": " + e.getMessage());
+            }
+        }
+
+        private Map<Path, Set<Path>> buildIncludeDependencyGraph(Set<Path> includePaths) {
+            Map<Path, Set<Path>> dependencies = includePaths.stream()
+                    .collect(Collectors.toMap(p -> p, p -> new LinkedHashSet<>(), (a, b) -> a, LinkedHashMap::new));
+
+            for (Path includePath : includePaths) {
+                try {
+                    Set<String> imports = importsOf(includePath);
+
+                    for (String importSpec : imports) {
+                        Path resolvedPath = resolveImport(includePath.getParent(), importSpec);
+                        if (resolvedPath == null || !includePaths.contains(resolvedPath)) {
+                            continue;
+                        }
+
+                        // Evita dipendenze circolari immediate
+                        if (isSameFile(includePath, resolvedPath)) {
+                            continue;
+                        }
+
+                        dependencies.get(includePath).add(resolvedPath);
+                    }
+
+                } catch (IOException e) {
+                    note("Errore analisi dipendenze per " + rel(includePath) + ": " + e.getMessage());
+                }
+            }
+
+            return dependencies;
+        }
+
+        /**
+         * BFS multi-sorgente a partire dagli include usati direttamente. Un nodo è marcato
+         * visitato quando entra in coda, così il primo padre registrato appartiene a un
+         * cammino minimo; per gli include diretti il padre è il primo file dell'app che li importa.
+         */
+        private Set<Path> computeTransitiveUsage(Map<String, Path> includes,
+                                                 Map<String, Set<Path>> directUsages,
+                                                 Map<Path, Set<Path>> dependencies,
+                                                 Map<Path, Path> parents) {
+
+            // Esegui BFS per trovare tutti gli include raggiungibili
+            Set<Path> transitivelyUsed = new LinkedHashSet<>();
+            Queue<Path> queue = new ArrayDeque<>();
+
+            // Sorgenti: include usati direttamente dall'app
+            directUsages.forEach((includeName, users) -> {
+                Path includePath = includes.get(includeName);
+                if (includePath != null && !users.isEmpty() && transitivelyUsed.add(includePath)) {
+                    parents.put(includePath, users.iterator().next());
+                    queue.offer(includePath);
+                }
+            });
+
+            while (!queue.isEmpty()) {
+                Path current = queue.poll();
+
+                // Aggiungi le dipendenze non ancora visitate alla coda
+                Set<Path> deps = dependencies.getOrDefault(current, Collections.emptySet());
+                for (Path dependency : deps) {
+                    if (transitivelyUsed.add(dependency)) {
+                        parents.put(dependency, current);
+                        queue.offer(dependency);
+                    }
+                }
+            }
+
+            return transitivelyUsed;
+        }
+
+        // ===== Helper Methods =====
+
+        private void note(String message) {
+            messages.add(message);
+            progress.accept(message);
+        }
+
+        private Set<String> importsOf(Path file) throws IOException {
+            if (!policy.isRegionOnly(file)) {
+                return cache.parse(file, FULL_SCAN,
+                        p -> Collections.unmodifiableSet(extractImports(Files.readString(p, StandardCharsets.UTF_8))));
+            }
+
+            // I contatori crescono solo quando il loader legge davvero dal disco
+            int readsBefore = regionFiles;
+            Set<String> imports = cache.parse(file, REGION_SCAN, p -> {
+                var region = ImportRegionReader.read(p);
+                regionFiles++;
+                regionBytesRead += region.bytesRead();
+                regionBytesSkipped += region.bytesSkipped();
+                return Collections.unmodifiableSet(extractImports(region.text()));
+            });
+            if (regionFiles == readsBefore) {
+                regionCached++;
+            }
+            return imports;
+        }
+
+        private Map<String, Path> indexIncludes() throws IOException {
+            Map<String, Path> includes = new LinkedHashMap<>();
+
+            try (var stream = Files.walk(includesRoot)) {
+                stream.filter(Files::isRegularFile)
+                        .filter(IncludeAnalyzer::hasValidExtension)
+                        .forEach(path -> {
+                            String fileName = path.getFileName().toString();
+                            String baseName = getBaseName(fileName);
+                            includes.put(baseName, path.toAbsolutePath().normalize());
+                        });
+            }
+
+            return includes;
+        }
+
+        private List<Path> listSources(Path root, Set<Path> excludePaths) throws IOException {
+            Set<Path> excludeAbsolute = excludePaths.stream()
+                    .map(p -> p.toAbsolutePath().normalize())
+                    .collect(Collectors.toSet());
+
+            try (var stream = Files.walk(root)) {
+                return stream.filter(path -> {
+                    if (!Files.isRegularFile(path)) {
+                        return false;
+                    }
+
+                    Path absolute = path.toAbsolutePath().normalize();
+
+                    // Escludi file in directory escluse
+                    for (Path exclude : excludeAbsolute) {
+                        if (absolute.startsWith(exclude)) {
+                            return false;
+                        }
+                    }
+
+                    return hasValidExtension(path);
+                }).collect(Collectors.toList());
+            }
+        }
+
+        private String rel(Path path) {
+            try {
+                return appRoot.relativize(path.toAbsolutePath().normalize()).toString();
+            } catch (IllegalArgumentException e) {
+                return path.toString();
+            }
+        }
+    }
+
+    private static boolean hasValidExtension(Path path) {
+        String fileName = path.getFileName().toString().toLowerCase();
+        return EXTS.stream().anyMatch(fileName::endsWith);
+    }
+
+    private static String getBaseName(String fileName) {
+        int lastDot = fileName.lastIndexOf('.');
+        return lastDot > 0 ? fileName.substring(0, lastDot) : fileName;
+    }
+
+    private static Path resolveImport(Path baseDir, String importSpec) {
+        List<String> candidates = Arrays.asList(
+                importSpec,
+                importSpec + ".jsx",
+                importSpec + ".tsx",
+                importSpec + ".js",
+                importSpec + "/index.jsx",
+                importSpec + "/index.tsx",
+                importSpec + "/index.js"
+        );
+
+        for (String candidate : candidates) {
+            try {
+                Path resolved = baseDir.resolve(candidate).normalize();
+                if (Files.exists(resolved)) {
+                    return resolved;
+                }
+            } catch (Exception ignored) {
+                // Continua con il prossimo candidato
+            }
+        }
+
+        return null;
+    }
+
+    private static boolean isUnder(Path path, Path root) {
+        Path absolutePath = path.toAbsolutePath().normalize();
+        Path absoluteRoot = root.toAbsolutePath().normalize();
+        return absolutePath.startsWith(absoluteRoot);
+    }
+
+    private static boolean isSameFile(Path path1, Path path2) {
+        try {
+            return Files.isSameFile(path1, path2);
+        } catch (IOException e) {
+            return false;
+        }
+    }
+}
@@ -9,11 +9,16 @@ import java.util.Set;
 
 public class Report {
     private final Set<String> lines = new LinkedHashSet<>();
+    private final Set<String> chains = new LinkedHashSet<>();
 
     public void addUnused(String includeName, String includeRelPath) {
         lines.add(includeName + " | " + includeRelPath);
     }
 
+    public void addUsed(String includeName, String chain) {
+        chains.add(includeName + " | " + chain);
+    }
+
     public Path writeUnusedTxt(Path outDir, String baseName) throws Exception {
         Files.createDirectories(outDir);
         var ts  = DateTimeFormatter.ofPattern("yyyyMMdd-HHmmss").format(LocalDateTime.now());
@@ -21,6 +26,10 @@ public class Report {
         try (var w = Files.newBufferedWriter(txt, StandardCharsets.UTF_8)) {
             w.write("# Include NON usati (" + lines.size() + ")\n");
             for (var line : lines) w.write(line + "\n");
+            if (!chains.isEmpty()) {
+                w.write("\n# Include usati: catena d'uso più corta (" + chains.size() + ")\n");
+                for (var chain : chains) w.write(chain + "\n");
+            }
         }
         return txt;
     }
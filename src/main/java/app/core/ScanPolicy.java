@@ -0,0 +1,77 @@
+package app.core;
+
+import java.nio.file.Path;
+import java.util.*;
+
+/**
+ * Stabilisce, per ogni file, se estrarre gli import leggendo tutto il file
+ * o solo la regione iniziale di import/commenti/direttive.
+ * Le eccezioni per cartella vincono sul default; a parità vince la cartella più specifica.
+ * Le cartelle relative sono risolte rispetto alla cartella app con {@link #resolveAgainst(Path)},
+ * che l'analisi applica prima di usare la policy.
+ */
+public final class ScanPolicy {
+    private static final ScanPolicy FULL = new ScanPolicy(false, Map.of());
+    private static final ScanPolicy REGION = new ScanPolicy(true, Map.of());
+
+    private final boolean regionByDefault;
+    private final Map<Path, Boolean> overrides;
+
+    private ScanPolicy(boolean regionByDefault, Map<Path, Boolean> overrides) {
+        this.regionByDefault = regionByDefault;
+        this.overrides = overrides;
+    }
+
+    /** Scansione completa di ogni file (comportamento storico). */
+    public static ScanPolicy fullScan() {
+        return FULL;
+    }
+
+    /** Solo regione iniziale degli import: adatto a codice senza {@code require} né {@code import()}. */
+    public static ScanPolicy importRegion() {
+        return REGION;
+    }
+
+    /** Scansione completa sotto {@code dir}, ad esempio dove sono ammessi import dinamici. */
+    public ScanPolicy withFullScanUnder(Path dir) {
+        return with(dir, false);
+    }
+
+    public ScanPolicy withImportRegionUnder(Path dir) {
+        return with(dir, true);
+    }
+
+    /** Copia della policy con le cartelle relative risolte rispetto a {@code appRoot}. */
+    public ScanPolicy resolveAgainst(Path appRoot) {
+        if (overrides.keySet().stream().allMatch(Path::isAbsolute)) {
+            return this;
+        }
+        Path root = appRoot.toAbsolutePath().normalize();
+        Map<Path, Boolean> resolved = new LinkedHashMap<>();
+        overrides.forEach((dir, region) -> resolved.put(root.resolve(dir).normalize(), region));
+        return new ScanPolicy(regionByDefault, Collections.unmodifiableMap(resolved));
+    }
+
+    /** Le cartelle relative non ancora risolte con {@link #resolveAgainst(Path)} non corrispondono a nessun file. */
+    public boolean isRegionOnly(Path file) {
+        Path absolute = file.toAbsolutePath().normalize();
+        Path best = null;
+        for (Path dir : overrides.keySet()) {
+            if (absolute.startsWith(dir) && (best == null || dir.getNameCount() > best.getNameCount())) {
+                best = dir;
+            }
+        }
+        return best != null ? overrides.get(best) : regionByDefault;
+    }
+
+    /** Vero se almeno un file può essere letto in modalità regione. */
+    public boolean usesRegion() {
+        return regionByDefault || overrides.containsValue(true);
+    }
+
+    private ScanPolicy with(Path dir, boolean region) {
+        Map<Path, Boolean> copy = new LinkedHashMap<>(overrides);
+        copy.put(dir.normalize(), region);
+        return new ScanPolicy(regionByDefault, Collections.unmodifiableMap(copy));
+    }
+}
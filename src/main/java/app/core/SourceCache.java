@@ -0,0 +1,78 @@
+package app.core;
+
+import java.io.IOException;
+import java.nio.file.*;
+import java.nio.file.attribute.BasicFileAttributes;
+import java.nio.file.attribute.FileTime;
+import java.util.*;
+
+/**
+ * Cache thread-safe e limitata degli import estratti dai sorgenti.
+ * Le voci sono valide finché dimensione e data di modifica del file non cambiano,
+ * quindi più analisi concorrenti possono riusarle senza rileggere il disco.
+ * Oltre {@code maxEntries} voci viene scartata quella usata meno di recente.
+ */
+public final class SourceCache {
+    public static final int DEFAULT_MAX_ENTRIES = 20_000;
+
+    @FunctionalInterface
+    public interface Loader<T> {
+        T load(Path file) throws IOException;
+    }
+
+    private record Stamp(FileTime modified, long size) {}
+
+    private record Entry<T>(Stamp stamp, T value) {}
+
+    private record ParseKey(Path file, String parser) {}
+
+    private final Map<ParseKey, Entry<?>> parsed;
+
+    public SourceCache() {
+        this(DEFAULT_MAX_ENTRIES);
+    }
+
+    public SourceCache(int maxEntries) {
+        if (maxEntries <= 0) {
+            throw new IllegalArgumentException("maxEntries deve essere positivo: " + maxEntries);
+        }
+        this.parsed = Collections.synchronizedMap(new LinkedHashMap<>(16, 0.75f, true) {
+            @Override
+            protected boolean removeEldestEntry(Map.Entry<ParseKey, Entry<?>> eldest) {
+                return size() > maxEntries;
+            }
+        });
+    }
+
+    /**
+     * Esito del parsing del file calcolato da {@code loader}; {@code parser} distingue
+     * strategie di estrazione diverse sullo stesso file. Il valore deve essere immutabile.
+     * Il loader gira fuori dal lock: due analisi sullo stesso file possono calcolarlo entrambe.
+     */
+    @SuppressWarnings("unchecked")
+    public <T> T parse(Path file, String parser, Loader<T> loader) throws IOException {
+        Path path = file.toAbsolutePath().normalize();
+        ParseKey key = new ParseKey(path, parser);
+        Stamp stamp = stampOf(path);
+        Entry<?> cached = parsed.get(key);
+        if (cached != null && cached.stamp().equals(stamp)) {
+            return (T) cached.value();
+        }
+        T value = loader.load(path);
+        parsed.put(key, new Entry<>(stamp, value));
+        return value;
+    }
+
+    public int size() {
+        return parsed.size();
+    }
+
+    public void clear() {
+        parsed.clear();
+    }
+
+    private static Stamp stampOf(Path file) throws IOException {
+        BasicFileAttributes attrs = Files.readAttributes(file, BasicFileAttributes.class);
+        return new Stamp(attrs.lastModifiedTime(), attrs.size());
+    }
+}
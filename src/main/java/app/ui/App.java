@@ -1,8 +1,10 @@
 package app.ui;
 
+import app.core.IncludeAnalyzer;
 import app.core.IncludeUsageService;
 import app.core.Refactorer;
 import app.core.Report;
+import app.core.ScanPolicy;
 
 import javax.swing.*;
 import javax.swing.border.LineBorder;
@@ -15,8 +17,10 @@ public class App {
     private JButton startBtn, browseAppBtn, browseIncBtn, backBtn;
     private JProgressBar bar;
     private JTextArea log;
-    private JTextField appField, incField;
-    private JCheckBox applyMoves;
+    private JTextField appField, incField, fullScanDirsField;
+    private JCheckBox applyMoves, importRegionOnly;
+    // Cache degli import legata alla finestra: le scansioni successive riusano i file non modificati
+    private final IncludeAnalyzer analyzer = new IncludeAnalyzer();
 
     public App(){
         frame = new JFrame("Include Analyzer");
@@ -34,6 +38,11 @@ public class App {
         browseIncBtn = new JButton("Seleziona Includes");
         startBtn = new JButton("Avvia");
         applyMoves = new JCheckBox("Sposta include NON usati in 'include inutilizzati/'", true);
+        importRegionOnly = new JCheckBox("Leggi solo la regione iniziale degli import (niente require/import())", false);
+        fullScanDirsField = new JTextField("");
+        fullScanDirsField.setToolTipText("Sottocartelle di app, separate da ';', dove sono ammessi require/import(): lì la scansione resta completa");
+        fullScanDirsField.setEnabled(false);
+        importRegionOnly.addActionListener(e -> fullScanDirsField.setEnabled(importRegionOnly.isSelected()));
         bar = new JProgressBar(); bar.setIndeterminate(false);
         log = new JTextArea(); log.setEditable(false); log.setFont(new Font(Font.MONOSPACED, Font.PLAIN, 12));
 
@@ -54,6 +63,10 @@ public class App {
         c.gridx=2; c.weightx=0; grid.add(browseIncBtn, c);
 
         c.gridx=1; c.gridy=2; c.gridwidth=2; grid.add(applyMoves, c);
+        c.gridy=3; grid.add(importRegionOnly, c);
+
+        c.gridx=0; c.gridy=4; c.gridwidth=1; c.weightx=0; grid.add(new JLabel("Scansione completa in:"), c);
+        c.gridx=1; c.gridwidth=2; c.weightx=1; grid.add(fullScanDirsField, c);
 
         var top = new JPanel(new BorderLayout(8,8));
         top.add(header, BorderLayout.NORTH);
@@ -103,6 +116,17 @@ public class App {
         }
     }
 
+    // Cartelle relative ad app: la policy le risolve rispetto alla cartella app
+    // Può lanciare InvalidPathException: va chiamato dentro il try del worker
+    private static ScanPolicy buildScanPolicy(boolean regionOnly, String fullScanDirs){
+        if (!regionOnly) return ScanPolicy.fullScan();
+        var policy = ScanPolicy.importRegion();
+        for (var dir : fullScanDirs.split(";")) {
+            if (!dir.isBlank()) policy = policy.withFullScanUnder(Paths.get(dir.trim()));
+        }
+        return policy;
+    }
+
     private void runScan(){
         startBtn.setEnabled(false); browseAppBtn.setEnabled(false); browseIncBtn.setEnabled(false);
         bar.setIndeterminate(true);
@@ -116,13 +140,16 @@ public class App {
         var report = new Report();
         var refactorer = new Refactorer();
         final boolean apply = applyMoves.isSelected();
+        final boolean regionOnly = importRegionOnly.isSelected();
+        final String fullScanDirs = fullScanDirsField.getText();
 
         new Thread(() -> {
             try {
+                var policy = buildScanPolicy(regionOnly, fullScanDirs);
                 var svc = new IncludeUsageService(
                         appRoot, incRoot, unusedDir, apply,
                         msg -> SwingUtilities.invokeLater(() -> log.append(msg + "\n")),
-                        report, refactorer
+                        report, refactorer, analyzer, policy
                 );
                 svc.execute();
                 var out = report.writeUnusedTxt(appRoot, "include-unused");
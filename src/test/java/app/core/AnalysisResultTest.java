@@ -0,0 +1,133 @@
+package app.core;
+
+import org.junit.jupiter.api.Test;
+import org.junit.jupiter.api.io.TempDir;
+
+import java.io.IOException;
+import java.nio.file.*;
+import java.util.*;
+
+import static org.junit.jupiter.api.Assertions.*;
+
+class AnalysisResultTest {
+
+    @TempDir
+    Path root;
+
+    private Path app, includes;
+
+    @Test
+    void returnsShortestChainWhenLongerPathExists() throws IOException {
+        setUp();
+        // Home -> A -> B -> C e anche Home -> A -> C: vince il secondo
+        page("Home", "A");
+        include("A", "B", "C");
+        include("B", "C");
+        include("C");
+
+        AnalysisResult result = analyze();
+
+        assertEquals(List.of(file("pages/Home.jsx"), inc("A"), inc("C")), result.whyUsed("C"));
+        assertEquals(List.of(file("pages/Home.jsx"), inc("A"), inc("B")), result.whyUsed("B"));
+    }
+
+    @Test
+    void shortestChainCrossesAppFiles() throws IOException {
+        setUp();
+        // Home arriva a D in tre salti, Other lo importa direttamente
+        page("Home", "A");
+        page("Other", "D");
+        include("A", "B");
+        include("B", "D");
+        include("D");
+
+        AnalysisResult result = analyze();
+
+        assertEquals(List.of(file("pages/Other.jsx"), inc("D")), result.whyUsed("D"));
+    }
+
+    @Test
+    void directlyUsedIncludeHasTwoElementChain() throws IOException {
+        setUp();
+        page("Home", "A");
+        include("A");
+
+        AnalysisResult result = analyze();
+
+        assertEquals(List.of(file("pages/Home.jsx"), inc("A")), result.whyUsed("A"));
+    }
+
+    @Test
+    void unusedIncludeHasEmptyChain() throws IOException {
+        setUp();
+        page("Home", "A");
+        include("A");
+        include("Orphan", "A");
+
+        AnalysisResult result = analyze();
+
+        assertEquals(List.of(), result.whyUsed("Orphan"));
+        assertEquals(List.of(), result.whyUsed("Missing"));
+    }
+
+    @Test
+    void cycleBetweenIncludesStillYieldsChain() throws IOException {
+        setUp();
+        page("Home", "A");
+        include("A", "B");
+        include("B", "C");
+        include("C", "A");
+
+        AnalysisResult result = analyze();
+
+        assertEquals(List.of(file("pages/Home.jsx"), inc("A")), result.whyUsed("A"));
+        assertEquals(List.of(file("pages/Home.jsx"), inc("A"), inc("B"), inc("C")), result.whyUsed("C"));
+    }
+
+    @Test
+    void relativePathsResolveAgainstAppRoot() throws IOException {
+        setUp();
+        page("Home", "A");
+        include("A", "B");
+        include("B");
+
+        AnalysisResult result = analyze();
+
+        assertEquals(result.whyUsed("B"), result.whyUsed(Paths.get("private.includes/B.jsx")));
+        assertEquals(3, result.whyUsed(Paths.get("private.includes/B.jsx")).size());
+    }
+
+    private void setUp() throws IOException {
+        app = Files.createDirectories(root.resolve("app"));
+        includes = Files.createDirectories(app.resolve("private.includes"));
+        Files.createDirectories(app.resolve("pages"));
+    }
+
+    private void page(String name, String... imports) throws IOException {
+        Files.writeString(app.resolve("pages/" + name + ".jsx"), importLines("../private.includes/", imports));
+    }
+
+    private void include(String name, String... imports) throws IOException {
+        Files.writeString(includes.resolve(name + ".jsx"), importLines("./", imports));
+    }
+
+    private static String importLines(String prefix, String... imports) {
+        var sb = new StringBuilder();
+        for (String imp : imports) {
+            sb.append("import ").append(imp).append(" from '").append(prefix).append(imp).append("';\n");
+        }
+        return sb.append("export default 1;\n").toString();
+    }
+
+    private AnalysisResult analyze() throws IOException {
+        return new IncludeAnalyzer().analyze(app, includes, app.resolve("include inutilizzati"));
+    }
+
+    private Path file(String relative) {
+        return app.resolve(relative).toAbsolutePath().normalize();
+    }
+
+    private Path inc(String name) {
+        return file("private.includes/" + name + ".jsx");
+    }
+}
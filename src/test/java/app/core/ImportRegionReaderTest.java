@@ -0,0 +1,142 @@
+package app.core;
+
+import org.junit.jupiter.api.Test;
+import org.junit.jupiter.api.io.TempDir;
+
+import java.io.IOException;
+import java.nio.charset.StandardCharsets;
+import java.nio.file.*;
+import java.util.*;
+
+import static org.junit.jupiter.api.Assertions.*;
+
+class ImportRegionReaderTest {
+
+    private static final String HEADER =
+            "'use client';\n" +
+            "/* blocco\n   di commento */\n" +
+            "import React from 'react';\n" +
+            "import {\n  a,\n  b\n} from \"../private.includes/Multi\";\n" +
+            "// riga di commento\n" +
+            "import Button from '../private.includes/Button';\n";
+
+    private static final String BODY =
+            "\nexport default function Page() {\n" +
+            "  const x = require('../private.includes/Late');\n" +
+            "  return null;\n" +
+            "}\n";
+
+    @TempDir
+    Path dir;
+
+    @Test
+    void regionMatchesFullScanWhenBoundaryCutsEveryToken() throws IOException {
+        // Sposta il confine del blocco su ogni carattere dell'header: token, stringhe e commenti tagliati
+        for (int shift = 0; shift <= HEADER.length(); shift++) {
+            String content = padding(ImportRegionReader.CHUNK - shift) + HEADER + BODY;
+            Path file = write("shift-" + shift + ".jsx", content);
+
+            var region = ImportRegionReader.read(file);
+
+            assertEquals(fullScan(padding(ImportRegionReader.CHUNK - shift) + HEADER),
+                    IncludeAnalyzer.extractImports(region.text()), "shift " + shift);
+            assertFalse(region.text().contains("Late"), "shift " + shift);
+        }
+    }
+
+    @Test
+    void multiByteCharactersAcrossChunks() throws IOException {
+        for (int shift = 0; shift < 8; shift++) {
+            String pad = "x".repeat(shift) + "è😀".repeat(ImportRegionReader.CHUNK / 3);
+            String content = "// " + pad + "\n/* " + pad + " */\n" + HEADER + BODY;
+            Path file = write("utf8-" + shift + ".jsx", content);
+
+            var region = ImportRegionReader.read(file);
+
+            assertEquals(fullScan(HEADER), IncludeAnalyzer.extractImports(region.text()), "shift " + shift);
+            assertTrue(region.text().strip().endsWith("from '../private.includes/Button';"), "shift " + shift);
+        }
+    }
+
+    @Test
+    void dynamicImportAndImportMetaCloseTheRegionEvenWhenCut() throws IOException {
+        for (String expression : List.of("import('../private.includes/Lazy');\n", "import.meta.url;\n",
+                "import ('../private.includes/Lazy');\n")) {
+            for (int shift = 0; shift <= expression.length(); shift++) {
+                String head = padding(ImportRegionReader.CHUNK - shift);
+                String content = head + expression + HEADER;
+                Path file = write("dyn-" + shift + ".jsx", content);
+
+                var region = ImportRegionReader.read(file);
+
+                assertEquals(head, region.text(), expression.trim() + " shift " + shift);
+                assertTrue(fullScan(content).size() > IncludeAnalyzer.extractImports(region.text()).size());
+            }
+        }
+    }
+
+    @Test
+    void fileWithoutTrailingNewlineIsReadEntirely() throws IOException {
+        for (String last : List.of("import A from './A'", "import A from './A';", "// fine", "/* fine */")) {
+            String content = "import React from 'react';\n" + last;
+            Path file = write("eof.jsx", content);
+
+            var region = ImportRegionReader.read(file);
+
+            assertEquals(content, region.text(), last);
+            assertEquals(fullScan(content), IncludeAnalyzer.extractImports(region.text()), last);
+            assertEquals(0, region.bytesSkipped());
+        }
+    }
+
+    @Test
+    void leadingBomAndShebangDoNotEndTheRegion() throws IOException {
+        String content = "\uFEFF#!/usr/bin/env node\nimport A from './A';\nimport B from './B';\nconst x = 1;\n";
+        Path file = write("bom.js", content);
+
+        var region = ImportRegionReader.read(file);
+
+        assertEquals(Set.of("./A", "./B"), IncludeAnalyzer.extractImports(region.text()));
+        assertEquals(fullScan(content), IncludeAnalyzer.extractImports(region.text()));
+    }
+
+    @Test
+    void stopsReadingLongBodies() throws IOException {
+        String content = HEADER + BODY.repeat(2_000);
+        Path file = write("long.jsx", content);
+
+        var region = ImportRegionReader.read(file);
+
+        assertEquals(Files.size(file), region.fileSize());
+        assertTrue(region.bytesRead() <= 2L * ImportRegionReader.CHUNK);
+        assertEquals(region.fileSize() - region.bytesRead(), region.bytesSkipped());
+        assertEquals(fullScan(HEADER), IncludeAnalyzer.extractImports(region.text()));
+    }
+
+    @Test
+    void longCommentsSpanningManyChunks() throws IOException {
+        String license = "/*\n" + " * Licenza: riga ripetuta per molti blocchi.\n".repeat(20_000) + " */\n";
+        String longLine = "// " + "x".repeat(10 * ImportRegionReader.CHUNK) + "\n";
+        for (String head : List.of(license, longLine, "#!" + longLine.substring(2))) {
+            Path file = write("license.jsx", head + HEADER + BODY.repeat(200));
+
+            var region = ImportRegionReader.read(file);
+
+            assertEquals(fullScan(HEADER), IncludeAnalyzer.extractImports(region.text()));
+            assertTrue(region.bytesSkipped() > 0);
+        }
+    }
+
+    // Commento a riga singola di esattamente {@code length} caratteri (newline incluso)
+    private static String padding(int length) {
+        return "//" + "-".repeat(length - 3) + "\n";
+    }
+
+    private static Set<String> fullScan(String content) {
+        return IncludeAnalyzer.extractImports(content);
+    }
+
+    private Path write(String name, String content) throws IOException {
+        return Files.writeString(dir.resolve(name), content, StandardCharsets.UTF_8);
+    }
+}
@@ -0,0 +1,91 @@
+package app.core;
+
+import org.junit.jupiter.api.Test;
+import org.junit.jupiter.api.io.TempDir;
+
+import java.io.IOException;
+import java.nio.file.*;
+import java.util.*;
+import java.util.concurrent.*;
+
+import static org.junit.jupiter.api.Assertions.*;
+
+class IncludeAnalyzerTest {
+
+    @TempDir
+    Path root;
+
+    private Path app, includes;
+
+    @Test
+    void concurrentAnalysesOnSharedAnalyzerAgree() throws Exception {
+        createProject(200);
+        var analyzer = new IncludeAnalyzer();
+        var start = new CountDownLatch(1);
+        ExecutorService pool = Executors.newFixedThreadPool(2);
+        try {
+            Callable<AnalysisResult> task = () -> {
+                start.await();
+                return analyzer.analyze(app, includes, app.resolve("include inutilizzati"));
+            };
+            Future<AnalysisResult> first = pool.submit(task);
+            Future<AnalysisResult> second = pool.submit(task);
+            start.countDown();
+
+            AnalysisResult a = first.get(30, TimeUnit.SECONDS);
+            AnalysisResult b = second.get(30, TimeUnit.SECONDS);
+
+            assertEquals(a.includes(), b.includes());
+            assertEquals(a.dependencies(), b.dependencies());
+            assertEquals(a.directUsages(), b.directUsages());
+            assertEquals(a.transitivelyUsed(), b.transitivelyUsed());
+            assertEquals(a.unused(), b.unused());
+            assertEquals(a.messages(), b.messages());
+            assertEquals(Set.of("Orphan"), a.unused().keySet());
+        } finally {
+            pool.shutdownNow();
+        }
+    }
+
+    @Test
+    void resultCollectionsAreImmutable() throws IOException {
+        createProject(3);
+        AnalysisResult result = new IncludeAnalyzer().analyze(app, includes, app.resolve("include inutilizzati"));
+        Path any = result.includes().values().iterator().next();
+
+        assertThrows(UnsupportedOperationException.class, () -> result.includes().put("X", any));
+        assertThrows(UnsupportedOperationException.class, () -> result.dependencies().clear());
+        assertThrows(UnsupportedOperationException.class, () -> result.dependencies().get(any).add(any));
+        assertThrows(UnsupportedOperationException.class, () -> result.directUsages().get("Shared").clear());
+        assertThrows(UnsupportedOperationException.class, () -> result.transitivelyUsed().remove(any));
+        assertThrows(UnsupportedOperationException.class, () -> result.messages().add("x"));
+        assertThrows(UnsupportedOperationException.class, () -> result.unused().clear());
+        assertThrows(UnsupportedOperationException.class, () -> result.whyUsed("Shared").clear());
+    }
+
+    @Test
+    void analysisHasNoSideEffectsOnDisk() throws IOException {
+        createProject(3);
+        Path target = app.resolve("include inutilizzati");
+
+        new IncludeAnalyzer().analyze(app, includes, target);
+
+        assertFalse(Files.exists(target));
+        assertTrue(Files.exists(includes.resolve("Orphan.jsx")));
+    }
+
+    // Pagine che importano Comp<i>, tutte collegate a Shared; Orphan non è usato da nessuno
+    private void createProject(int pages) throws IOException {
+        app = Files.createDirectories(root.resolve("app"));
+        includes = Files.createDirectories(app.resolve("private.includes"));
+        Files.createDirectories(app.resolve("pages"));
+        Files.writeString(includes.resolve("Shared.jsx"), "export default 1;\n");
+        Files.writeString(includes.resolve("Orphan.jsx"), "export default 2;\n");
+        for (int i = 0; i < pages; i++) {
+            Files.writeString(includes.resolve("Comp" + i + ".jsx"), "import Shared from './Shared';\n");
+            Files.writeString(app.resolve("pages/Page" + i + ".jsx"),
+                    "import Comp from '../private.includes/Comp" + i + "';\n"
+                            + "import Shared from '../private.includes/Shared';\n");
+        }
+    }
+}
@@ -0,0 +1,94 @@
+package app.core;
+
+import org.junit.jupiter.api.Test;
+import org.junit.jupiter.api.io.TempDir;
+
+import java.io.IOException;
+import java.nio.file.*;
+import java.nio.file.attribute.FileTime;
+import java.util.concurrent.atomic.AtomicInteger;
+
+import static org.junit.jupiter.api.Assertions.*;
+
+class SourceCacheTest {
+
+    @TempDir
+    Path dir;
+
+    private final SourceCache cache = new SourceCache();
+    private final AtomicInteger loads = new AtomicInteger();
+
+    @Test
+    void reusesEntryWhileFileIsUnchanged() throws IOException {
+        Path file = Files.writeString(dir.resolve("A.jsx"), "import B from './B';\n");
+
+        String first = parse(file);
+        String second = parse(file);
+
+        assertEquals(1, loads.get());
+        assertSame(first, second);
+    }
+
+    @Test
+    void reloadsWhenModificationTimeChanges() throws IOException {
+        Path file = Files.writeString(dir.resolve("A.jsx"), "import B from './B';\n");
+        FileTime original = Files.getLastModifiedTime(file);
+        parse(file);
+
+        // Stessa dimensione, contenuto e data diversi
+        Files.writeString(file, "import C from './C';\n");
+        Files.setLastModifiedTime(file, FileTime.fromMillis(original.toMillis() + 10_000));
+
+        assertEquals("import C from './C';\n", parse(file));
+        assertEquals(2, loads.get());
+    }
+
+    @Test
+    void reloadsWhenSizeChangesWithSameModificationTime() throws IOException {
+        Path file = Files.writeString(dir.resolve("A.jsx"), "import B from './B';\n");
+        FileTime original = Files.getLastModifiedTime(file);
+        parse(file);
+
+        Files.writeString(file, "import Longer from './Longer';\n");
+        Files.setLastModifiedTime(file, original);
+
+        assertEquals("import Longer from './Longer';\n", parse(file));
+        assertEquals(2, loads.get());
+    }
+
+    @Test
+    void parsersAreCachedSeparately() throws IOException {
+        Path file = Files.writeString(dir.resolve("A.jsx"), "x");
+
+        cache.parse(file, "full", p -> loads.incrementAndGet());
+        cache.parse(file, "region", p -> loads.incrementAndGet());
+
+        assertEquals(2, loads.get());
+        assertEquals(2, cache.size());
+    }
+
+    @Test
+    void evictsLeastRecentlyUsedBeyondLimit() throws IOException {
+        var small = new SourceCache(2);
+        Path a = Files.writeString(dir.resolve("a.js"), "a");
+        Path b = Files.writeString(dir.resolve("b.js"), "b");
+        Path c = Files.writeString(dir.resolve("c.js"), "c");
+
+        small.parse(a, "full", p -> loads.incrementAndGet());
+        small.parse(b, "full", p -> loads.incrementAndGet());
+        small.parse(a, "full", p -> loads.incrementAndGet());
+        small.parse(c, "full", p -> loads.incrementAndGet());
+        small.parse(a, "full", p -> loads.incrementAndGet());
+        small.parse(b, "full", p -> loads.incrementAndGet());
+
+        assertEquals(2, small.size());
+        assertEquals(4, loads.get());
+    }
+
+    private String parse(Path file) throws IOException {
+        return cache.parse(file, "full", p -> {
+            loads.incrementAndGet();
+            return Files.readString(p);
+        });
+    }
+}